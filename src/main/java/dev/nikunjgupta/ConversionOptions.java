@@ -0,0 +1,98 @@
+package dev.nikunjgupta;
+
+/**
+ * Options controlling how an openapi is converted to a graphql schema
+ */
+public class ConversionOptions {
+    private boolean releaseOpenApi = false;
+    private boolean internStrings = false;
+    private boolean includeDescriptions = true;
+    private boolean shareTypes = false;
+
+    /**
+     * @return options matching the default conversion behaviour
+     */
+    public static ConversionOptions defaults() {
+        return new ConversionOptions();
+    }
+
+    /**
+     * Compact memory footprint mode - releases the openapi model after conversion, interns
+     * names and descriptions and shares identical enum and input types across conversions.
+     * Descriptions are kept, use {@link #includeDescriptions(boolean)} to drop them.
+     *
+     * @return options for compact memory footprint mode
+     */
+    public static ConversionOptions compact() {
+        return new ConversionOptions()
+                .releaseOpenApi(true)
+                .internStrings(true)
+                .shareTypes(true);
+    }
+
+    /**
+     * @param releaseOpenApi if true, no reference to the openapi model is kept once the
+     *                       schema is generated
+     */
+    public ConversionOptions releaseOpenApi(boolean releaseOpenApi) {
+        this.releaseOpenApi = releaseOpenApi;
+        return this;
+    }
+
+    /**
+     * @param internStrings if true, names and descriptions are interned
+     */
+    public ConversionOptions internStrings(boolean internStrings) {
+        this.internStrings = internStrings;
+        return this;
+    }
+
+    /**
+     * @param includeDescriptions if false, descriptions are not copied to the graphql schema
+     */
+    public ConversionOptions includeDescriptions(boolean includeDescriptions) {
+        this.includeDescriptions = includeDescriptions;
+        return this;
+    }
+
+    /**
+     * @param shareTypes if true, enum and input types are shared with identical types of
+     *                   other conversions
+     */
+    public ConversionOptions shareTypes(boolean shareTypes) {
+        this.shareTypes = shareTypes;
+        return this;
+    }
+
+    public boolean isReleaseOpenApi() {
+        return releaseOpenApi;
+    }
+
+    public boolean isInternStrings() {
+        return internStrings;
+    }
+
+    public boolean isIncludeDescriptions() {
+        return includeDescriptions;
+    }
+
+    public boolean isShareTypes() {
+        return shareTypes;
+    }
+
+    /**
+     * @return name to use in the graphql schema
+     */
+    public String name(String name) {
+        return internStrings && name != null ? name.intern() : name;
+    }
+
+    /**
+     * @return description to use in the graphql schema, null if descriptions are dropped
+     */
+    public String description(String description) {
+        if (!includeDescriptions)
+            return null;
+        return internStrings && description != null ? description.intern() : description;
+    }
+}
@@ -7,12 +7,41 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 public class OpenApiToGraphQlSchema {
+    /**
+     * Conversions share the NameProvider singleton - a conversion and the reset after it must
+     * hold this lock
+     */
+    static final Object CONVERSION_LOCK = new Object();
+
     public static GraphQLSchema generateGraphQlSchema(String openApiUri) {
+        return generateGraphQlSchema(openApiUri, ConversionOptions.defaults());
+    }
+
+    public static GraphQLSchema generateGraphQlSchema(String openApiUri,
+                                                      ConversionOptions options) {
         SwaggerParseResult result = new OpenAPIParser().readLocation(openApiUri, null, null);
         OpenAPI openAPI = result.getOpenAPI();
-        GraphQLSchema graphQLSchema = new OpenApiToGraphQlSchemaConverter(openAPI).generateSchema();
-        reset();
-        return graphQLSchema;
+        synchronized (CONVERSION_LOCK) {
+            try {
+                return new OpenApiToGraphQlSchemaConverter(openAPI, options).generateSchema();
+            } finally {
+                reset();
+            }
+        }
+    }
+
+    /**
+     * Generate a schema split into shards which are converted on first use
+     *
+     * @param openApiUri       location of the openapi
+     * @param shardingStrategy how operations are split into shards
+     * @param options          options for the conversion of each shard
+     * @return ShardedGraphQlSchema object
+     */
+    public static ShardedGraphQlSchema generateShardedGraphQlSchema(
+            String openApiUri, ShardingStrategy shardingStrategy, ConversionOptions options) {
+        SwaggerParseResult result = new OpenAPIParser().readLocation(openApiUri, null, null);
+        return new ShardedGraphQlSchema(result.getOpenAPI(), shardingStrategy, options);
     }
 
     private static void reset() {
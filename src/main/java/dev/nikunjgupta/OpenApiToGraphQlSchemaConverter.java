@@ -1,8 +1,12 @@
 package dev.nikunjgupta;
 
 import dev.nikunjgupta.converter.GraphQlTypeConverter;
+import dev.nikunjgupta.converter.TypeNames;
 import dev.nikunjgupta.provider.NameProvider;
 import dev.nikunjgupta.provider.SchemaProvider;
+import dev.nikunjgupta.request.RequestPlan;
+import dev.nikunjgupta.request.RequestPlanCompiler;
+import graphql.Scalars;
 import graphql.schema.*;
 import io.swagger.models.HttpMethod;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -13,39 +17,143 @@ import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.servers.Server;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Actual Converter for openapi to graphql schema conversion
  */
 public class OpenApiToGraphQlSchemaConverter {
-    private final OpenAPI openAPI;
-    private final SchemaProvider schemaProvider;
+    /**
+     * Query field added when the openapi has no query operation, a schema needs one field
+     */
+    public static final String EMPTY_QUERY_FIELD = "_empty";
+    private static final Map<PathItem.HttpMethod, HttpMethod> CONVERTED_METHODS =
+            new EnumMap<>(PathItem.HttpMethod.class);
+
+    static {
+        CONVERTED_METHODS.put(PathItem.HttpMethod.GET, HttpMethod.GET);
+        CONVERTED_METHODS.put(PathItem.HttpMethod.POST, HttpMethod.POST);
+        CONVERTED_METHODS.put(PathItem.HttpMethod.PUT, HttpMethod.PUT);
+        CONVERTED_METHODS.put(PathItem.HttpMethod.PATCH, HttpMethod.PATCH);
+    }
+
+    private OpenAPI openAPI;
+    private SchemaProvider schemaProvider;
     private final NameProvider nameProvider;
-    private final GraphQlTypeConverter graphQlTypeConverter;
+    private GraphQlTypeConverter graphQlTypeConverter;
+    private RequestPlanCompiler requestPlanCompiler;
+    private final ConversionOptions options;
+    private final Map<FieldCoordinates, RequestPlan> requestPlans = new LinkedHashMap<>();
+    private final Map<Operation, String> fieldNames;
 
     /**
      * C'tor
      */
     public OpenApiToGraphQlSchemaConverter(OpenAPI openAPI) {
+        this(openAPI, ConversionOptions.defaults());
+    }
+
+    /**
+     * C'tor
+     */
+    public OpenApiToGraphQlSchemaConverter(OpenAPI openAPI, ConversionOptions options) {
+        this(openAPI, options, null, NameProvider.getInstance(), new TypeNames());
+    }
+
+    /**
+     * C'tor
+     *
+     * @param fieldNames   field name of each operation (by identity), null to derive unique
+     *                     names from the operations
+     * @param nameProvider NameProvider new type names come from
+     * @param typeNames    type names assigned to Schema objects by earlier conversions
+     */
+    OpenApiToGraphQlSchemaConverter(OpenAPI openAPI, ConversionOptions options,
+                                    Map<Operation, String> fieldNames,
+                                    NameProvider nameProvider, TypeNames typeNames) {
         this.openAPI = openAPI;
+        this.options = options;
+        this.fieldNames = fieldNames;
         this.schemaProvider = SchemaProvider.getOrCreateSchemaProvider(openAPI);
-        this.nameProvider = NameProvider.getInstance();
-        this.graphQlTypeConverter = new GraphQlTypeConverter(openAPI, schemaProvider,
-                nameProvider);
+        this.nameProvider = nameProvider;
+        this.graphQlTypeConverter = new GraphQlTypeConverter(schemaProvider, nameProvider,
+                options, typeNames);
+        this.requestPlanCompiler = new RequestPlanCompiler(getBaseUrl(openAPI));
     }
 
     /**
-     * Generate GraphQlSchema
+     * Generate GraphQlSchema.
+     * If {@link ConversionOptions#isReleaseOpenApi()} is set, the openapi model is released
+     * afterwards, even if the conversion fails, and this converter can not be used again.
      *
      * @return GraphQlSchema object
      */
     public GraphQLSchema generateSchema() {
+        if (openAPI == null)
+            throw new IllegalStateException("OpenAPI model already released");
+
+        try {
+            return buildSchema();
+        } finally {
+            if (options.isReleaseOpenApi())
+                release();
+        }
+    }
+
+    /**
+     * Request plans of the fields of the generated schema, compiled during
+     * {@link #generateSchema()}. A data fetcher for a field turns its arguments into the http
+     * request of the operation with {@link RequestPlan#createRequest(Map)}.
+     *
+     * @return RequestPlan for each Query and Mutation field, except fields whose request body
+     * media type is neither json nor form urlencoded
+     */
+    public Map<FieldCoordinates, RequestPlan> getRequestPlans() {
+        return Collections.unmodifiableMap(requestPlans);
+    }
+
+    /**
+     * Convert the types of all operations without building a schema, assigning their names
+     * in the {@link TypeNames} of this converter
+     */
+    void convertTypes() {
+        createSchemaBuilder();
+    }
+
+    /**
+     * Drop all references to the openapi model
+     */
+    private void release() {
+        SchemaProvider.removeSchemaProvider(openAPI);
+        graphQlTypeConverter.release();
+        graphQlTypeConverter = null;
+        requestPlanCompiler = null;
+        schemaProvider = null;
+        openAPI = null;
+    }
+
+    /**
+     * @return GraphQlSchema object for the openapi model
+     */
+    private GraphQLSchema buildSchema() {
+        return createSchemaBuilder().build();
+    }
+
+    /**
+     * @return GraphQLSchema.Builder with the Query and Mutation types of the openapi model
+     */
+    private GraphQLSchema.Builder createSchemaBuilder() {
 
         GraphQLObjectType.Builder queryTypeBuilder = GraphQLObjectType.newObject()
                 .name("Query");
+        boolean queryAdded = false;
         boolean mutationAdded = false;
         GraphQLObjectType.Builder mutationTypeBuilder = GraphQLObjectType.newObject()
                 .name("Mutation");
@@ -65,6 +173,7 @@ public class OpenApiToGraphQlSchemaConverter {
                 } else {
                     queryTypeBuilder = queryTypeBuilder
                             .field(fieldBuilder);
+                    queryAdded = true;
                 }
             }
             if ((pathItem.getPost() != null && (operation =
@@ -84,12 +193,19 @@ public class OpenApiToGraphQlSchemaConverter {
             }
         }
 
+        if (!queryAdded) {
+            queryTypeBuilder.field(GraphQLFieldDefinition.newFieldDefinition()
+                    .name(EMPTY_QUERY_FIELD)
+                    .description(options.description("The openapi has no query operation"))
+                    .type(Scalars.GraphQLBoolean));
+        }
+
         GraphQLSchema.Builder schemaBuilder = GraphQLSchema.newSchema().query(queryTypeBuilder);
 
         if (mutationAdded)
             schemaBuilder.mutation(mutationTypeBuilder);
 
-        return schemaBuilder.build();
+        return schemaBuilder;
     }
 
     /**
@@ -125,10 +241,13 @@ public class OpenApiToGraphQlSchemaConverter {
     private GraphQLFieldDefinition.Builder createGraphQLFieldDefinition(Operation operation,
                                                                         String path,
                                                                         HttpMethod method) {
+        String fieldName = options.name(fieldNames != null ? fieldNames.get(operation) :
+                nameProvider.getUniqueName(nameProvider.getOperationName(operation, path,
+                        method)));
         GraphQLFieldDefinition.Builder fieldBuilder = GraphQLFieldDefinition.newFieldDefinition()
-                .name(nameProvider.getUniqueName(nameProvider.getOperationName(operation, path,
-                        method)))
-                .description(Util.nonNullOr(operation.getDescription(), operation.getSummary()));
+                .name(fieldName)
+                .description(options.description(Util.nonNullOr(operation.getDescription(),
+                        operation.getSummary())));
 
         Schema responseSchema = getResponseSchema(operation);
         if (responseSchema == null) {
@@ -137,16 +256,19 @@ public class OpenApiToGraphQlSchemaConverter {
 
         fieldBuilder.type((GraphQLOutputType) graphQlTypeConverter.getGraphQlType(responseSchema));
 
-        for (Parameter parameter : Util.nonNullOr(operation.getParameters(),
-                new LinkedList<Parameter>())) {
+        List<Parameter> parameters = Util.nonNullOr(operation.getParameters(),
+                new LinkedList<>());
+        for (Parameter parameter : parameters) {
             fieldBuilder.argument(GraphQLArgument.newArgument()
-                    .name(parameter.getName())
-                    .description(parameter.getDescription())
+                    .name(options.name(parameter.getName()))
+                    .description(options.description(parameter.getDescription()))
                     .type(graphQlTypeConverter.getGraphQlInputType(parameter.getSchema(),
                             parameter.getName()))
                     .build());
         }
 
+        GraphQLInputType bodyType = null;
+        String bodyContentType = null;
         if (operation.getRequestBody() != null) {
             RequestBody requestBody = operation.getRequestBody();
             Schema requestSchema = getRequestSchema(requestBody);
@@ -156,20 +278,63 @@ public class OpenApiToGraphQlSchemaConverter {
                 requestSchema.setName(nameProvider.getOperationName(operation, path, method) +
                         "Input");
             }
+            bodyType = graphQlTypeConverter.getGraphQlInputType(requestSchema);
+            bodyContentType = requestBody.getContent().keySet().iterator().next();
             fieldBuilder.argument(GraphQLArgument.newArgument()
                     .name("body")
-                    .description(requestBody.getDescription())
-                    .type(graphQlTypeConverter.getGraphQlInputType(requestSchema))
+                    .description(options.description(requestBody.getDescription()))
+                    .type(bodyType)
                     .build());
         }
 
+        RequestPlan requestPlan = requestPlanCompiler.compile(path, method, parameters,
+                bodyType != null ? "body" : null, bodyType, bodyContentType);
+        if (requestPlan != null)
+            requestPlans.put(FieldCoordinates.coordinates(getRootTypeName(method), fieldName),
+                    requestPlan);
+        else
+            System.out.println(method + " " + path + " " + bodyContentType + " request body " +
+                    "could not be compiled to a request plan");
         return fieldBuilder;
     }
 
+    /**
+     * @return http method of an operation converted to a graphql field, null if operations
+     * of the method are not converted
+     */
+    static HttpMethod getConvertedMethod(PathItem.HttpMethod method) {
+        return CONVERTED_METHODS.get(method);
+    }
+
+    /**
+     * @return name of the root type holding the fields of operations of the method
+     */
+    static String getRootTypeName(HttpMethod method) {
+        return method == HttpMethod.GET ? "Query" : "Mutation";
+    }
+
+    /**
+     * @return true if the operation can be converted to a graphql field
+     */
+    static boolean isConvertible(Operation operation) {
+        return getResponseSchema(operation) != null && (operation.getRequestBody() == null
+                || getRequestSchema(operation.getRequestBody()) != null);
+    }
+
+    /**
+     * @return url of the first server of the openapi, operation paths are relative to it
+     */
+    private static String getBaseUrl(OpenAPI openAPI) {
+        List<Server> servers = openAPI.getServers();
+        if (servers == null || servers.isEmpty() || servers.get(0).getUrl() == null)
+            return "";
+        return servers.get(0).getUrl();
+    }
+
     /**
      * @return Schema object from a RequestBody of an Operation of openApi
      */
-    private Schema getRequestSchema(RequestBody requestBody) {
+    private static Schema getRequestSchema(RequestBody requestBody) {
         // TODO: union of 2 request type is possible - handle that
         Content requestContent = requestBody.getContent();
         if (requestContent.size() == 0)
@@ -181,7 +346,7 @@ public class OpenApiToGraphQlSchemaConverter {
     /**
      * @return Schema object Response of an Operation of openApi
      */
-    private Schema getResponseSchema(Operation operation) {
+    private static Schema getResponseSchema(Operation operation) {
         // fetched the responseSchema
         // TODO: better logic
         // TODO: union of 2 response is possible - handle that
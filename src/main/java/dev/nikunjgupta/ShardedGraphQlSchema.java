@@ -0,0 +1,376 @@
+package dev.nikunjgupta;
+
+import dev.nikunjgupta.converter.TypeNames;
+import dev.nikunjgupta.provider.NameProvider;
+import dev.nikunjgupta.provider.SchemaProvider;
+import dev.nikunjgupta.request.RequestPlan;
+import graphql.language.*;
+import graphql.parser.Parser;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLSchema;
+import io.swagger.models.HttpMethod;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+
+import java.util.*;
+
+/**
+ * GraphQl schema for an openapi split into shards (by tag or path prefix).
+ * Each shard is converted on first use and cached, so only the shards actually in use are
+ * converted and validated. {@link #getSchemaForQuery(String)} routes a request to the
+ * shard(s) serving its root fields.
+ * Field and type names are assigned once for the whole openapi, so a field or type has the
+ * same name in every shard (or combination of shards) serving it.
+ */
+public class ShardedGraphQlSchema {
+    /**
+     * Default number of shard schemas (single shards and combinations) kept in the cache
+     */
+    public static final int DEFAULT_MAX_CACHED_SCHEMAS = 32;
+
+    private final OpenAPI openAPI;
+    private final ConversionOptions options;
+    private final Set<String> shardNames;
+    private final Map<Operation, String> fieldNames = new IdentityHashMap<>();
+    private final Map<Operation, List<String>> operationShardNames = new IdentityHashMap<>();
+    private final Map<FieldCoordinates, Set<String>> fieldShardNames = new HashMap<>();
+    private final Map<Set<String>, Shard> shards;
+    private final NameProvider nameProvider = NameProvider.newInstance();
+    private final TypeNames typeNames = new TypeNames();
+    private boolean typeNamesAssigned;
+
+    /**
+     * C'tor
+     */
+    public ShardedGraphQlSchema(OpenAPI openAPI, ShardingStrategy shardingStrategy,
+                                ConversionOptions options) {
+        this(openAPI, shardingStrategy, options, DEFAULT_MAX_CACHED_SCHEMAS);
+    }
+
+    /**
+     * C'tor
+     *
+     * @param maxCachedSchemas number of shard schemas kept, the least recently used schema is
+     *                         dropped (and converted again when needed) beyond it
+     */
+    public ShardedGraphQlSchema(OpenAPI openAPI, ShardingStrategy shardingStrategy,
+                                ConversionOptions options, int maxCachedSchemas) {
+        this.openAPI = openAPI;
+        this.options = options;
+        this.shards = new LinkedHashMap<Set<String>, Shard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Set<String>, Shard> eldest) {
+                return size() > maxCachedSchemas;
+            }
+        };
+        Set<String> shardNames = new TreeSet<>();
+        Map<String, Set<String>> usedFieldNames = new HashMap<>();
+        for (Map.Entry<String, PathItem> entry : openAPI.getPaths().entrySet()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> operationEntry :
+                    entry.getValue().readOperationsMap().entrySet()) {
+                HttpMethod method = OpenApiToGraphQlSchemaConverter.getConvertedMethod(
+                        operationEntry.getKey());
+                Operation operation = operationEntry.getValue();
+                // only operations the converter turns into fields are served by a shard
+                if (method == null || !OpenApiToGraphQlSchemaConverter.isConvertible(operation))
+                    continue;
+                List<String> shards = shardingStrategy.getShardNames(entry.getKey(), operation);
+                String rootTypeName = OpenApiToGraphQlSchemaConverter.getRootTypeName(method);
+                String fieldName = getUniqueFieldName(nameProvider.getOperationName(operation,
+                        entry.getKey(), method), usedFieldNames.computeIfAbsent(rootTypeName,
+                        name -> new HashSet<>()));
+                fieldNames.put(operation, fieldName);
+                operationShardNames.put(operation, shards);
+                fieldShardNames.put(FieldCoordinates.coordinates(rootTypeName, fieldName),
+                        new TreeSet<>(shards));
+                shardNames.addAll(shards);
+            }
+        }
+        this.shardNames = Collections.unmodifiableSet(shardNames);
+    }
+
+    /**
+     * @return names of all shards
+     */
+    public Set<String> getShardNames() {
+        return shardNames;
+    }
+
+    /**
+     * @return names of the shards (or shard combinations) currently cached
+     */
+    public Set<Set<String>> getBuiltShardNames() {
+        synchronized (shards) {
+            return Collections.unmodifiableSet(new HashSet<>(shards.keySet()));
+        }
+    }
+
+    /**
+     * @param shardName name of the shard
+     * @return GraphQlSchema for the operations of the shard
+     */
+    public GraphQLSchema getSchema(String shardName) {
+        return getSchema(Collections.singleton(shardName));
+    }
+
+    /**
+     * Every distinct combination of shards is converted into its own schema, request single
+     * shards where possible to keep conversions and the cache small.
+     *
+     * @param shardNames names of the shards
+     * @return GraphQlSchema for the operations of all the given shards
+     */
+    public GraphQLSchema getSchema(Collection<String> shardNames) {
+        return getShard(shardNames).schema;
+    }
+
+    /**
+     * @param shardName name of the shard
+     * @return RequestPlan for each field of the shard's schema
+     * @see OpenApiToGraphQlSchemaConverter#getRequestPlans()
+     */
+    public Map<FieldCoordinates, RequestPlan> getRequestPlans(String shardName) {
+        return getRequestPlans(Collections.singleton(shardName));
+    }
+
+    /**
+     * @param shardNames names of the shards
+     * @return RequestPlan for each field of the schema of the given shards
+     * @see OpenApiToGraphQlSchemaConverter#getRequestPlans()
+     */
+    public Map<FieldCoordinates, RequestPlan> getRequestPlans(Collection<String> shardNames) {
+        return getShard(shardNames).requestPlans;
+    }
+
+    /**
+     * @return cached shard for the shard names, converted if not cached
+     */
+    private Shard getShard(Collection<String> shardNames) {
+        Set<String> key = Collections.unmodifiableSet(new TreeSet<>(shardNames));
+        if (key.isEmpty() || !this.shardNames.containsAll(key))
+            throw new IllegalArgumentException("Unknown shards " + shardNames + ", available " +
+                    "shards are " + this.shardNames);
+        Shard shard = getCachedShard(key);
+        if (shard != null)
+            return shard;
+        synchronized (OpenApiToGraphQlSchema.CONVERSION_LOCK) {
+            shard = getCachedShard(key);
+            if (shard == null) {
+                assignTypeNames();
+                OpenAPI view = createOpenApiView(key);
+                try {
+                    OpenApiToGraphQlSchemaConverter converter =
+                            new OpenApiToGraphQlSchemaConverter(view, options, fieldNames,
+                                    nameProvider, typeNames);
+                    shard = new Shard(converter.generateSchema(), converter.getRequestPlans());
+                } finally {
+                    SchemaProvider.removeSchemaProvider(view);
+                }
+                synchronized (shards) {
+                    shards.put(key, shard);
+                }
+            }
+            return shard;
+        }
+    }
+
+    /**
+     * Name the types of all operations once, so shards converted later reuse those names
+     * instead of numbering types by the operations they happen to contain
+     */
+    private void assignTypeNames() {
+        if (typeNamesAssigned)
+            return;
+        try {
+            new OpenApiToGraphQlSchemaConverter(openAPI, options, fieldNames,
+                    nameProvider, typeNames).convertTypes();
+        } finally {
+            SchemaProvider.removeSchemaProvider(openAPI);
+        }
+        typeNamesAssigned = true;
+    }
+
+    /**
+     * @param query graphql request document
+     * @return GraphQlSchema for the shard(s) serving the root fields of the query
+     */
+    public GraphQLSchema getSchemaForQuery(String query) {
+        return getSchema(route(query));
+    }
+
+    /**
+     * Select the shards serving the root fields of a graphql request
+     *
+     * @param query graphql request document
+     * @return names of the selected shards
+     * @throws IllegalArgumentException if no shard serves a root field of the query
+     */
+    public Set<String> route(String query) {
+        Document document = Parser.parse(query);
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (FragmentDefinition fragment :
+                document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+        Set<FieldCoordinates> fields = new LinkedHashSet<>();
+        for (OperationDefinition operation :
+                document.getDefinitionsOfType(OperationDefinition.class)) {
+            String rootTypeName = getRootTypeName(operation);
+            Set<String> fieldNames = new LinkedHashSet<>();
+            collectFieldNames(operation.getSelectionSet(), fragments, fieldNames,
+                    new HashSet<>());
+            for (String fieldName : fieldNames) {
+                if (!fieldName.startsWith("__"))
+                    fields.add(FieldCoordinates.coordinates(rootTypeName, fieldName));
+            }
+        }
+
+        List<Set<String>> fieldShards = new ArrayList<>();
+        for (FieldCoordinates field : fields) {
+            Set<String> shards = fieldShardNames.get(field);
+            if (shards == null)
+                throw new IllegalArgumentException("No shard serves field " +
+                        field.getTypeName() + "." + field.getFieldName());
+            fieldShards.add(shards);
+        }
+        // fields served by a single shard decide first, a field present in several shards
+        // only needs one of them - the one serving most of the fields still unserved
+        fieldShards.sort(Comparator.comparingInt(Set::size));
+        Set<String> selectedShardNames = new TreeSet<>();
+        for (Set<String> shards : fieldShards) {
+            if (Collections.disjoint(shards, selectedShardNames))
+                selectedShardNames.add(selectShard(shards, fieldShards, selectedShardNames));
+        }
+        if (selectedShardNames.isEmpty())
+            throw new IllegalArgumentException("No shard serves the query");
+        return selectedShardNames;
+    }
+
+    /**
+     * @param candidates      shards serving a field
+     * @param fieldShards     shards serving each field of the query
+     * @param selectedShards  shards already selected
+     * @return the candidate serving most fields not served by the selected shards, the first
+     * by name if several serve as many
+     */
+    private static String selectShard(Set<String> candidates, List<Set<String>> fieldShards,
+                                      Set<String> selectedShards) {
+        String selected = null;
+        int selectedCount = -1;
+        for (String candidate : candidates) {
+            int count = 0;
+            for (Set<String> shards : fieldShards) {
+                if (shards.contains(candidate) && Collections.disjoint(shards, selectedShards))
+                    count++;
+            }
+            if (count > selectedCount) {
+                selected = candidate;
+                selectedCount = count;
+            }
+        }
+        return selected;
+    }
+
+    private Shard getCachedShard(Set<String> key) {
+        synchronized (shards) {
+            return shards.get(key);
+        }
+    }
+
+    /**
+     * @return name of the root type of a graphql operation
+     */
+    private static String getRootTypeName(OperationDefinition operation) {
+        switch (operation.getOperation()) {
+            case QUERY:
+                return "Query";
+            case MUTATION:
+                return "Mutation";
+            default:
+                throw new IllegalArgumentException("No shard serves " +
+                        operation.getOperation().name().toLowerCase() + " operations");
+        }
+    }
+
+    /**
+     * @return name, postfixed with a count if already used, and mark it used
+     */
+    private static String getUniqueFieldName(String name, Set<String> usedNames) {
+        String uniqueName = name;
+        for (int count = 1; !usedNames.add(uniqueName); count++) {
+            uniqueName = name + count;
+        }
+        return uniqueName;
+    }
+
+    /**
+     * Collect the names of the fields selected by a selection set, following fragments
+     */
+    private void collectFieldNames(SelectionSet selectionSet,
+                                   Map<String, FragmentDefinition> fragments,
+                                   Set<String> fieldNames, Set<String> visitedFragments) {
+        if (selectionSet == null)
+            return;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                fieldNames.add(((Field) selection).getName());
+            } else if (selection instanceof InlineFragment) {
+                collectFieldNames(((InlineFragment) selection).getSelectionSet(), fragments,
+                        fieldNames, visitedFragments);
+            } else if (selection instanceof FragmentSpread) {
+                String name = ((FragmentSpread) selection).getName();
+                if (fragments.containsKey(name) && visitedFragments.add(name))
+                    collectFieldNames(fragments.get(name).getSelectionSet(), fragments,
+                            fieldNames, visitedFragments);
+            }
+        }
+    }
+
+    /**
+     * @param shardNames names of the shards
+     * @return OpenAPI sharing the components of the openapi, with only the converted
+     * operations belonging to the given shards
+     */
+    private OpenAPI createOpenApiView(Set<String> shardNames) {
+        Paths paths = new Paths();
+        for (Map.Entry<String, PathItem> entry : openAPI.getPaths().entrySet()) {
+            PathItem pathItem = entry.getValue();
+            PathItem pathItemView = new PathItem()
+                    .summary(pathItem.getSummary())
+                    .description(pathItem.getDescription())
+                    .parameters(pathItem.getParameters());
+            boolean operationAdded = false;
+            for (Map.Entry<PathItem.HttpMethod, Operation> operationEntry :
+                    pathItem.readOperationsMap().entrySet()) {
+                List<String> shards = operationShardNames.get(operationEntry.getValue());
+                if (shards != null && !Collections.disjoint(shardNames, shards)) {
+                    pathItemView.operation(operationEntry.getKey(), operationEntry.getValue());
+                    operationAdded = true;
+                }
+            }
+            if (operationAdded)
+                paths.addPathItem(entry.getKey(), pathItemView);
+        }
+        return new OpenAPI()
+                .openapi(openAPI.getOpenapi())
+                .info(openAPI.getInfo())
+                .servers(openAPI.getServers())
+                .components(openAPI.getComponents())
+                .paths(paths);
+    }
+
+    /**
+     * Converted schema of a shard (or combination of shards) with its request plans
+     */
+    private static final class Shard {
+        private final GraphQLSchema schema;
+        private final Map<FieldCoordinates, RequestPlan> requestPlans;
+
+        Shard(GraphQLSchema schema, Map<FieldCoordinates, RequestPlan> requestPlans) {
+            this.schema = schema;
+            this.requestPlans = requestPlans;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.nikunjgupta;
+
+import io.swagger.v3.oas.models.Operation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides which shard(s) an openapi operation belongs to
+ */
+public enum ShardingStrategy {
+    /**
+     * One shard per operation tag, an operation with several tags is in each of them
+     */
+    TAG {
+        @Override
+        public List<String> getShardNames(String path, Operation operation) {
+            List<String> tags = operation.getTags();
+            if (tags == null || tags.isEmpty())
+                return Collections.singletonList(DEFAULT_SHARD);
+            return tags;
+        }
+    },
+    /**
+     * One shard per first path segment, eg "pet" for "/pet/{petId}"
+     */
+    PATH_PREFIX {
+        @Override
+        public List<String> getShardNames(String path, Operation operation) {
+            String[] segments = path.split("/");
+            for (String segment : segments) {
+                if (!segment.isEmpty())
+                    return Collections.singletonList(segment);
+            }
+            return Collections.singletonList(DEFAULT_SHARD);
+        }
+    };
+
+    /**
+     * Shard for operations without a tag or path prefix
+     */
+    public static final String DEFAULT_SHARD = "default";
+
+    /**
+     * @param path      endpoint path
+     * @param operation operation object from OpenApi
+     * @return names of the shards the operation belongs to
+     */
+    public abstract List<String> getShardNames(String path, Operation operation);
+}
@@ -1,5 +1,6 @@
 package dev.nikunjgupta.converter;
 
+import dev.nikunjgupta.ConversionOptions;
 import dev.nikunjgupta.Util;
 import dev.nikunjgupta.provider.SchemaProvider;
 import dev.nikunjgupta.provider.NameProvider;
@@ -27,19 +28,47 @@ public class GraphQlTypeConverter {
         SCHEMA_TO_GRAPHQL_TYPE_MAP.put("boolean", Scalars.GraphQLBoolean);
     }
 
-    private final OpenAPI openAPI;
-    private final SchemaProvider schemaProvider;
+    private SchemaProvider schemaProvider;
     private final NameProvider nameProvider;
+    private final ConversionOptions options;
+    private TypeNames typeNames;
     private final GraphQlTypeStore<Schema, GraphQLInputType> graphQlInputTypes;
     private final GraphQlTypeStore<Schema, GraphQLOutputType> graphQlTypes;
 
     public GraphQlTypeConverter(OpenAPI openAPI, SchemaProvider schemaProvider,
                                 NameProvider nameProvider) {
-        this.openAPI = openAPI;
+        this(schemaProvider, nameProvider, ConversionOptions.defaults());
+    }
+
+    public GraphQlTypeConverter(SchemaProvider schemaProvider, NameProvider nameProvider,
+                                ConversionOptions options) {
+        this(schemaProvider, nameProvider, options, new TypeNames());
+    }
+
+    /**
+     * C'tor
+     *
+     * @param typeNames names of types already converted from the Schema objects, new types
+     *                  are added to it
+     */
+    public GraphQlTypeConverter(SchemaProvider schemaProvider, NameProvider nameProvider,
+                                ConversionOptions options, TypeNames typeNames) {
         this.schemaProvider = schemaProvider;
         this.nameProvider = nameProvider;
-        this.graphQlInputTypes = new GraphQlTypeStore<>();
-        this.graphQlTypes = new GraphQlTypeStore<>();
+        this.options = options;
+        this.typeNames = typeNames;
+        this.graphQlInputTypes = new GraphQlTypeStore<>(nameProvider);
+        this.graphQlTypes = new GraphQlTypeStore<>(nameProvider);
+    }
+
+    /**
+     * Drop all references to openapi Schema objects held by this converter
+     */
+    public void release() {
+        this.schemaProvider = null;
+        this.typeNames = null;
+        graphQlInputTypes.clear();
+        graphQlTypes.clear();
     }
 
     public GraphQLType getGraphQlType(Schema schema) {
@@ -69,21 +98,17 @@ public class GraphQlTypeConverter {
                 else
                     graphQlTypes.put(schema, ExtendedScalars.Object);
             }
+            typeNames.put(schema, graphQlTypes.get(schema), false);
             return graphQlTypes.get(schema);
         }
 
         // schema is a enum type
         if (schema.getEnum() != null) {
             if (!graphQlTypes.containsKey(schema)) {
-                GraphQLEnumType.Builder gqlEnumBuilder = GraphQLEnumType.newEnum()
-                        .name(nameProvider.getUniqueName(Util.nonNullOr(schema.getName(),
-                                defaultName)))
-                        .description(schema.getDescription());
-                for (Object value : schema.getEnum()) {
-                    gqlEnumBuilder.value(value.toString());
-                }
-                graphQlTypes.put(schema, gqlEnumBuilder.build());
+                graphQlTypes.put(schema, convertToGraphQLEnumType(Util.nonNullOr(
+                        schema.getName(), defaultName), schema));
             }
+            typeNames.put(schema, graphQlTypes.get(schema), false);
 
             return graphQlTypes.get(schema);
         }
@@ -92,6 +117,23 @@ public class GraphQlTypeConverter {
         return SCHEMA_TO_GRAPHQL_TYPE_MAP.get(schema.getType());
     }
 
+    /**
+     * Converts an enum Schema to a GraphQLEnumType
+     *
+     * @param name   GraphQLEnumType's name
+     * @param schema Schema with enum values
+     * @return GraphQLEnumType for the provided Schema
+     */
+    private GraphQLEnumType convertToGraphQLEnumType(String name, @NotNull Schema schema) {
+        GraphQLEnumType.Builder gqlEnumBuilder = GraphQLEnumType.newEnum()
+                .name(options.name(getTypeName(schema, name, false)))
+                .description(options.description(schema.getDescription()));
+        for (Object value : schema.getEnum()) {
+            gqlEnumBuilder.value(options.name(value.toString()));
+        }
+        return share(gqlEnumBuilder.build());
+    }
+
     /**
      * Converts ObjectSchema to a GraphQlObjectType
      *
@@ -102,8 +144,8 @@ public class GraphQlTypeConverter {
     private GraphQLObjectType convertToGraphQLObjectType(String name,
                                                          @NotNull ObjectSchema objectSchema) {
         GraphQLObjectType.Builder graphQlObjectTypeBuilder = GraphQLObjectType.newObject()
-                .name(nameProvider.getUniqueName(name))
-                .description(objectSchema.getDescription());
+                .name(options.name(getTypeName(objectSchema, name, false)))
+                .description(options.description(objectSchema.getDescription()));
         Map<String, Schema> schemaMap = objectSchema.getProperties();
 
         if (schemaMap == null)
@@ -114,7 +156,7 @@ public class GraphQlTypeConverter {
             schema.setName(entry.getKey());
             graphQlObjectTypeBuilder = graphQlObjectTypeBuilder
                     .field(GraphQLFieldDefinition.newFieldDefinition()
-                            .name(entry.getKey())
+                            .name(options.name(entry.getKey()))
                             .type((GraphQLOutputType) getGraphQlType(schema)));
         }
 
@@ -141,20 +183,16 @@ public class GraphQlTypeConverter {
                 else
                     graphQlInputTypes.put(schema, ExtendedScalars.Object);
             }
+            typeNames.put(schema, graphQlInputTypes.get(schema), true);
             return graphQlInputTypes.get(schema);
         }
 
         if (schema.getEnum() != null) {
             if (!graphQlTypes.containsKey(schema)) {
-                GraphQLEnumType.Builder gqlEnumBuilder = GraphQLEnumType.newEnum()
-                        .name(nameProvider.getUniqueName(Util.nonNullOr(schema.getName(),
-                                defaultName)))
-                        .description(schema.getDescription());
-                for (Object value : schema.getEnum()) {
-                    gqlEnumBuilder.value(value.toString());
-                }
-                graphQlTypes.put(schema, gqlEnumBuilder.build());
+                graphQlTypes.put(schema, convertToGraphQLEnumType(Util.nonNullOr(
+                        schema.getName(), defaultName), schema));
             }
+            typeNames.put(schema, graphQlTypes.get(schema), false);
 
             return (GraphQLEnumType)graphQlTypes.get(schema);
         }
@@ -166,8 +204,8 @@ public class GraphQlTypeConverter {
                                                              @NotNull ObjectSchema objectSchema) {
         GraphQLInputObjectType.Builder gqlInputObjectTypeBuilder =
                 GraphQLInputObjectType.newInputObject()
-                        .name(nameProvider.getUniqueName(name))
-                        .description(objectSchema.getDescription());
+                        .name(options.name(getTypeName(objectSchema, name, true)))
+                        .description(options.description(objectSchema.getDescription()));
 
         Map<String, Schema> schemaMap = objectSchema.getProperties();
 
@@ -179,11 +217,26 @@ public class GraphQlTypeConverter {
             schema.setName(entry.getKey());
             gqlInputObjectTypeBuilder
                     .field(GraphQLInputObjectField.newInputObjectField()
-                            .name(entry.getKey())
+                            .name(options.name(entry.getKey()))
                             .type(getGraphQlInputType(schema)));
         }
 
-        return gqlInputObjectTypeBuilder.build();
+        return share(gqlInputObjectTypeBuilder.build());
+    }
+
+    /**
+     * @return name the schema's type got before, else a unique unused name
+     */
+    private String getTypeName(Schema schema, String name, boolean input) {
+        String typeName = typeNames.get(schema, input);
+        return typeName != null ? typeName : nameProvider.getUniqueName(name);
+    }
+
+    /**
+     * @return the type shared across conversions if sharing is enabled, else the type itself
+     */
+    private <T extends GraphQLType> T share(T type) {
+        return options.isShareTypes() ? SharedGraphQlTypes.share(type) : type;
     }
 
     public GraphQLInputType getGraphQlInputType(Schema<?> schema) {
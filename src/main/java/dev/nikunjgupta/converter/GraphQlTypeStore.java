@@ -15,9 +15,20 @@ import java.util.List;
  */
 public class GraphQlTypeStore<T, U extends GraphQLType> extends HashMap<T, U> {
 
-    private final NameProvider nameProvider = NameProvider.getInstance();
+    private final NameProvider nameProvider;
     private final SchemaPrinter schemaPrinter = new SchemaPrinter();
 
+    public GraphQlTypeStore() {
+        this(NameProvider.getInstance());
+    }
+
+    /**
+     * @param nameProvider NameProvider the names of the stored values come from
+     */
+    public GraphQlTypeStore(NameProvider nameProvider) {
+        this.nameProvider = nameProvider;
+    }
+
     @Override
     public U put(T key, U value) {
         // check if store already has this value
@@ -0,0 +1,122 @@
+package dev.nikunjgupta.converter;
+
+import graphql.schema.*;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of enum and input object types shared between conversions.
+ * Identical types (same name, description and structure) generated for different openapi
+ * specs resolve to the same instance, so only one copy is retained.
+ * Types are held weakly - once no schema uses a type any more it is dropped from the registry.
+ */
+public final class SharedGraphQlTypes {
+    private static final Map<String, SharedType> SHARED_TYPES = new HashMap<>();
+    private static final ReferenceQueue<GraphQLNamedType> RELEASED_TYPES = new ReferenceQueue<>();
+
+    /**
+     * C'tor
+     */
+    private SharedGraphQlTypes() {
+    }
+
+    /**
+     * @param type enum or input object type
+     * @return the shared type identical to the given type, the given type itself if it is the
+     * first of its kind or not shareable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GraphQLType> T share(T type) {
+        if (!(type instanceof GraphQLEnumType) && !(type instanceof GraphQLInputObjectType))
+            return type;
+        String signature = signature(type);
+        synchronized (SHARED_TYPES) {
+            expungeReleasedTypes();
+            SharedType sharedType = SHARED_TYPES.get(signature);
+            GraphQLNamedType existingType = sharedType != null ? sharedType.get() : null;
+            if (existingType != null)
+                return (T) existingType;
+            SHARED_TYPES.put(signature, new SharedType(signature, (GraphQLNamedType) type));
+            return type;
+        }
+    }
+
+    /**
+     * @return number of shared types still in use
+     */
+    public static int size() {
+        synchronized (SHARED_TYPES) {
+            expungeReleasedTypes();
+            return SHARED_TYPES.size();
+        }
+    }
+
+    /**
+     * Forget all shared types
+     */
+    public static void clear() {
+        synchronized (SHARED_TYPES) {
+            SHARED_TYPES.clear();
+            expungeReleasedTypes();
+        }
+    }
+
+    /**
+     * Remove the entries of types which got garbage collected
+     */
+    private static void expungeReleasedTypes() {
+        SharedType releasedType;
+        while ((releasedType = (SharedType) RELEASED_TYPES.poll()) != null) {
+            // the entry may have been replaced by a new type with the same signature
+            SHARED_TYPES.remove(releasedType.signature, releasedType);
+        }
+    }
+
+    /**
+     * @return string identifying the type by name, description and structure
+     */
+    private static String signature(GraphQLType type) {
+        if (type instanceof GraphQLList)
+            return "[" + signature(((GraphQLList) type).getWrappedType()) + "]";
+        if (type instanceof GraphQLNonNull)
+            return signature(((GraphQLNonNull) type).getWrappedType()) + "!";
+        StringBuilder signature = new StringBuilder();
+        if (type instanceof GraphQLEnumType) {
+            GraphQLEnumType enumType = (GraphQLEnumType) type;
+            signature.append("enum ").append(enumType.getName())
+                    .append('"').append(enumType.getDescription()).append('"').append('{');
+            for (GraphQLEnumValueDefinition value : enumType.getValues()) {
+                signature.append(value.getName()).append('=').append(value.getValue())
+                        .append('"').append(value.getDescription()).append('"').append(',');
+            }
+            return signature.append('}').toString();
+        }
+        if (type instanceof GraphQLInputObjectType) {
+            GraphQLInputObjectType inputType = (GraphQLInputObjectType) type;
+            signature.append("input ").append(inputType.getName())
+                    .append('"').append(inputType.getDescription()).append('"').append('{');
+            for (GraphQLInputObjectField field : inputType.getFieldDefinitions()) {
+                signature.append(field.getName())
+                        .append('"').append(field.getDescription()).append('"')
+                        .append(':').append(signature(field.getType())).append(',');
+            }
+            return signature.append('}').toString();
+        }
+        return ((GraphQLNamedSchemaElement) type).getName();
+    }
+
+    /**
+     * Weak reference to a shared type, remembering its signature to remove its entry
+     */
+    private static final class SharedType extends WeakReference<GraphQLNamedType> {
+        private final String signature;
+
+        SharedType(String signature, GraphQLNamedType type) {
+            super(type, RELEASED_TYPES);
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.nikunjgupta.converter;
+
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Names of the graphql types converted from openapi Schema objects (by identity).
+ * Conversions sharing a TypeNames give a Schema the name it got first, so parts of an openapi
+ * converted separately use the same type names.
+ */
+public class TypeNames {
+    private final Map<Schema, String> outputTypeNames = new IdentityHashMap<>();
+    private final Map<Schema, String> inputTypeNames = new IdentityHashMap<>();
+
+    /**
+     * @return name of the type converted from the schema, null if not converted yet
+     */
+    String get(Schema schema, boolean input) {
+        return (input ? inputTypeNames : outputTypeNames).get(schema);
+    }
+
+    /**
+     * Record the name of the type converted from the schema, if it has none yet.
+     * Scalars are not recorded.
+     */
+    void put(Schema schema, GraphQLType type, boolean input) {
+        if (type instanceof GraphQLObjectType || type instanceof GraphQLInputObjectType
+                || type instanceof GraphQLEnumType)
+            (input ? inputTypeNames : outputTypeNames).putIfAbsent(schema,
+                    ((GraphQLNamedType) type).getName());
+    }
+}
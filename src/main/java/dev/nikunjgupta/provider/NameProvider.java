@@ -28,6 +28,13 @@ public class NameProvider {
         return INSTANCE;
     }
 
+    /**
+     * @return new NameProvider, independent of the singleton instance
+     */
+    public static NameProvider newInstance() {
+        return new NameProvider();
+    }
+
     /**
      * @return A unique unused name (postfix a count)
      */
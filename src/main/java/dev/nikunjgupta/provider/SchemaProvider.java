@@ -3,7 +3,7 @@ package dev.nikunjgupta.provider;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
@@ -11,8 +11,10 @@ import java.util.Map;
  * Should be one SchemaProvider for each openapi.
  */
 public class SchemaProvider {
+    // by identity - equal openapi objects (eg the same spec parsed twice) must not share a
+    // SchemaProvider resolving refs to the other's Schema objects
     private static final Map<OpenAPI, SchemaProvider> OPEN_API_SCHEMA_PROVIDER_MAP =
-            new HashMap<>();
+            new IdentityHashMap<>();
     private final OpenAPI openAPI;
 
     /**
@@ -33,6 +35,14 @@ public class SchemaProvider {
         return OPEN_API_SCHEMA_PROVIDER_MAP.get(openAPI);
     }
 
+    /**
+     * Forget the SchemaProvider of an openAPI object, so the openAPI object is no longer
+     * retained.
+     */
+    public static void removeSchemaProvider(OpenAPI openAPI) {
+        OPEN_API_SCHEMA_PROVIDER_MAP.remove(openAPI);
+    }
+
     /**
      * @param schema Schema object with a ref
      * @return Actual Schema object
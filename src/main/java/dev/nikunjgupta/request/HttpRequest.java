@@ -0,0 +1,57 @@
+package dev.nikunjgupta.request;
+
+import java.util.Map;
+
+/**
+ * Http request for an operation, created by a {@link RequestPlan} from graphql arguments
+ */
+public final class HttpRequest {
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    private final String body;
+
+    /**
+     * C'tor
+     */
+    HttpRequest(String method, String url, Map<String, String> headers, String body) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * @return http method, eg "GET"
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return url including the query string
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return request headers
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return request body in the media type of the operation (see the Content-Type header),
+     * null if the operation has no body
+     */
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
@@ -0,0 +1,243 @@
+package dev.nikunjgupta.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable plan turning the graphql arguments of a field into the http request of its
+ * openapi operation.
+ * Compiled once at conversion time by {@link RequestPlanCompiler}, the per call work is
+ * appending pre-split constant url parts and argument values - no regex, no parsing of the
+ * path template and one argument lookup per parameter.
+ */
+public final class RequestPlan {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String method;
+    private final String[] pathLiterals;
+    private final String[] pathArguments;
+    private final String[] queryArguments;
+    private final String[] queryKeys;
+    private final String[] headerArguments;
+    private final String[] cookieArguments;
+    private final String[] cookieKeys;
+    private final String bodyArgument;
+    private final ValueSerializer bodySerializer;
+    private final Map<String, String> constantHeaders;
+    private final int urlCapacity;
+
+    /**
+     * C'tor
+     */
+    RequestPlan(String method, String[] pathLiterals, String[] pathArguments,
+                String[] queryArguments, String[] queryKeys, String[] headerArguments,
+                String[] cookieArguments, String[] cookieKeys, String bodyArgument,
+                ValueSerializer bodySerializer, String contentType) {
+        this.method = method;
+        this.pathLiterals = pathLiterals;
+        this.pathArguments = pathArguments;
+        this.queryArguments = queryArguments;
+        this.queryKeys = queryKeys;
+        this.headerArguments = headerArguments;
+        this.cookieArguments = cookieArguments;
+        this.cookieKeys = cookieKeys;
+        this.bodyArgument = bodyArgument;
+        this.bodySerializer = bodySerializer;
+        this.constantHeaders = contentType != null ?
+                Collections.singletonMap("Content-Type", contentType) : Collections.emptyMap();
+        int urlCapacity = 16 * (pathArguments.length + queryArguments.length);
+        for (String literal : pathLiterals) {
+            urlCapacity += literal.length();
+        }
+        for (String key : queryKeys) {
+            urlCapacity += key.length() + 1;
+        }
+        this.urlCapacity = urlCapacity;
+    }
+
+    /**
+     * @param arguments graphql arguments of the field
+     * @return http request for the arguments
+     * @throws IllegalArgumentException if a path argument is missing
+     */
+    public HttpRequest createRequest(Map<String, ?> arguments) {
+        return new HttpRequest(method, createUrl(arguments), createHeaders(arguments),
+                createBody(arguments));
+    }
+
+    /**
+     * @param arguments graphql arguments of the field
+     * @return url with path and query arguments filled in
+     */
+    public String createUrl(Map<String, ?> arguments) {
+        StringBuilder url = new StringBuilder(urlCapacity);
+        url.append(pathLiterals[0]);
+        for (int i = 0; i < pathArguments.length; i++) {
+            Object value = arguments.get(pathArguments[i]);
+            if (value == null)
+                throw new IllegalArgumentException("Missing path argument " + pathArguments[i]);
+            if (value instanceof List)
+                appendEncodedList((List<?>) value, url);
+            else
+                appendEncoded(value, url);
+            url.append(pathLiterals[i + 1]);
+        }
+        char separator = '?';
+        for (int i = 0; i < queryArguments.length; i++) {
+            Object value = arguments.get(queryArguments[i]);
+            if (value == null)
+                continue;
+            if (value instanceof List) {
+                // form style, exploded - the parameter is repeated for each item
+                List<?> values = (List<?>) value;
+                for (int j = 0; j < values.size(); j++) {
+                    url.append(separator).append(queryKeys[i]).append('=');
+                    appendEncoded(values.get(j), url);
+                    separator = '&';
+                }
+            } else {
+                url.append(separator).append(queryKeys[i]).append('=');
+                appendEncoded(value, url);
+                separator = '&';
+            }
+        }
+        return url.toString();
+    }
+
+    /**
+     * @param arguments graphql arguments of the field
+     * @return body in the media type of the operation, null if the operation has no body or
+     * the body argument is missing
+     */
+    public String createBody(Map<String, ?> arguments) {
+        if (bodyArgument == null)
+            return null;
+        Object value = arguments.get(bodyArgument);
+        if (value == null)
+            return null;
+        StringBuilder body = new StringBuilder(128);
+        bodySerializer.serialize(value, body);
+        return body.toString();
+    }
+
+    /**
+     * @param arguments graphql arguments of the field
+     * @return unmodifiable request headers, cookie arguments are sent in the Cookie header
+     */
+    public Map<String, String> createHeaders(Map<String, ?> arguments) {
+        if (headerArguments.length == 0 && cookieArguments.length == 0)
+            return constantHeaders;
+        Map<String, String> headers = new HashMap<>(constantHeaders);
+        for (int i = 0; i < headerArguments.length; i++) {
+            Object value = arguments.get(headerArguments[i]);
+            if (value != null)
+                headers.put(headerArguments[i], value instanceof List ?
+                        joinList((List<?>) value) : value.toString());
+        }
+        StringBuilder cookie = null;
+        for (int i = 0; i < cookieArguments.length; i++) {
+            Object value = arguments.get(cookieArguments[i]);
+            if (value == null)
+                continue;
+            if (cookie == null)
+                cookie = new StringBuilder();
+            else
+                cookie.append("; ");
+            cookie.append(cookieKeys[i]).append('=');
+            if (value instanceof List)
+                appendEncodedList((List<?>) value, cookie);
+            else
+                appendEncoded(value, cookie);
+        }
+        if (cookie != null)
+            headers.put("Cookie", cookie.toString());
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * @return http method, eg "GET"
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Append list items percent encoded and separated by commas (simple style, "a,b")
+     */
+    private static void appendEncodedList(List<?> values, StringBuilder out) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                out.append(',');
+            appendEncoded(values.get(i), out);
+        }
+    }
+
+    /**
+     * @return list items separated by commas (simple style, "a,b")
+     */
+    private static String joinList(List<?> values) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                joined.append(',');
+            joined.append(values.get(i));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Append a value percent encoded for use in a path segment or query string
+     */
+    static void appendEncoded(Object value, StringBuilder out) {
+        if (value instanceof Integer) {
+            out.append(((Integer) value).intValue());
+            return;
+        }
+        if (value instanceof Long) {
+            out.append(((Long) value).longValue());
+            return;
+        }
+        appendEncoded(String.valueOf(value), out);
+    }
+
+    /**
+     * Append a string percent encoded, only unreserved characters are kept as they are
+     */
+    static void appendEncoded(String value, StringBuilder out) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c))
+                continue;
+            out.append(value, start, i);
+            if (c < 0x80) {
+                appendPercentEncoded(c, out);
+                start = i + 1;
+            } else {
+                // encode the remaining non ascii run as utf-8
+                int end = i + 1;
+                while (end < value.length() && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendPercentEncoded(b & 0xff, out);
+                }
+                start = end;
+                i = end - 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    private static void appendPercentEncoded(int b, StringBuilder out) {
+        out.append('%').append(HEX[b >> 4]).append(HEX[b & 0xf]);
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
@@ -0,0 +1,135 @@
+package dev.nikunjgupta.request;
+
+import graphql.schema.GraphQLInputType;
+import io.swagger.models.HttpMethod;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiles openapi operations to {@link RequestPlan}s.
+ * Should be one RequestPlanCompiler for each openapi.
+ */
+public class RequestPlanCompiler {
+    private final String baseUrl;
+    private final ValueSerializers valueSerializers;
+
+    /**
+     * C'tor
+     *
+     * @param baseUrl url the operation paths are relative to
+     */
+    public RequestPlanCompiler(String baseUrl) {
+        this(baseUrl, new ValueSerializers());
+    }
+
+    /**
+     * C'tor
+     *
+     * @param baseUrl          url the operation paths are relative to
+     * @param valueSerializers compiled serializers, may be shared between compilers
+     */
+    public RequestPlanCompiler(String baseUrl, ValueSerializers valueSerializers) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) :
+                baseUrl;
+        this.valueSerializers = valueSerializers;
+    }
+
+    /**
+     * @param path        endpoint path, eg "/pet/{petId}"
+     * @param method      http method
+     * @param parameters  operation parameters, their names are the graphql argument names
+     * @param bodyName    graphql argument holding the request body, null if there is none
+     * @param bodyType    graphql input type of the request body
+     * @param contentType media type of the request body, sent as its Content-Type
+     * @return RequestPlan for the operation, null if the media type of the request body is
+     * neither json nor form urlencoded (parameters and case are ignored)
+     */
+    public RequestPlan compile(String path, HttpMethod method, List<Parameter> parameters,
+                               String bodyName, GraphQLInputType bodyType, String contentType) {
+        List<String> pathLiterals = new ArrayList<>();
+        List<String> pathArguments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(baseUrl);
+        int start = 0;
+        int open;
+        while ((open = path.indexOf('{', start)) >= 0) {
+            int close = path.indexOf('}', open);
+            if (close < 0)
+                break;
+            literal.append(path, start, open);
+            pathLiterals.add(literal.toString());
+            pathArguments.add(path.substring(open + 1, close));
+            literal.setLength(0);
+            start = close + 1;
+        }
+        pathLiterals.add(literal.append(path, start, path.length()).toString());
+
+        List<String> queryArguments = new ArrayList<>();
+        List<String> queryKeys = new ArrayList<>();
+        List<String> headerArguments = new ArrayList<>();
+        List<String> cookieArguments = new ArrayList<>();
+        List<String> cookieKeys = new ArrayList<>();
+        for (Parameter parameter : parameters) {
+            if ("query".equals(parameter.getIn())) {
+                queryArguments.add(parameter.getName());
+                queryKeys.add(encode(parameter.getName()));
+            } else if ("header".equals(parameter.getIn())) {
+                headerArguments.add(parameter.getName());
+            } else if ("cookie".equals(parameter.getIn())) {
+                cookieArguments.add(parameter.getName());
+                cookieKeys.add(encode(parameter.getName()));
+            }
+        }
+
+        ValueSerializer bodySerializer = null;
+        if (bodyName != null) {
+            String mediaType = getMediaType(contentType);
+            if (isJson(mediaType)) {
+                bodySerializer = valueSerializers.getSerializer(bodyType);
+                if (mediaType.equals("*/*"))
+                    contentType = "application/json";
+            } else if (mediaType.equals("application/x-www-form-urlencoded")) {
+                bodySerializer = valueSerializers.getFormSerializer(bodyType);
+            }
+            if (bodySerializer == null)
+                return null;
+        }
+
+        return new RequestPlan(method.name(),
+                pathLiterals.toArray(new String[0]),
+                pathArguments.toArray(new String[0]),
+                queryArguments.toArray(new String[0]),
+                queryKeys.toArray(new String[0]),
+                headerArguments.toArray(new String[0]),
+                cookieArguments.toArray(new String[0]),
+                cookieKeys.toArray(new String[0]),
+                bodyName,
+                bodySerializer,
+                bodyName != null ? contentType : null);
+    }
+
+    /**
+     * @return type/subtype of a media type in lower case, without parameters like charset
+     */
+    private static String getMediaType(String contentType) {
+        int parameters = contentType.indexOf(';');
+        return (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return true for json media types, json is sent where any media type is accepted
+     */
+    private static boolean isJson(String mediaType) {
+        return mediaType.equals("application/json") || mediaType.endsWith("+json")
+                || mediaType.equals("*/*");
+    }
+
+    private static String encode(String name) {
+        StringBuilder encoded = new StringBuilder();
+        RequestPlan.appendEncoded(name, encoded);
+        return encoded.toString();
+    }
+}
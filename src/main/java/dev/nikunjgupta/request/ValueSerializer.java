@@ -0,0 +1,13 @@
+package dev.nikunjgupta.request;
+
+/**
+ * Writes a graphql argument value of a known input type as json
+ */
+public interface ValueSerializer {
+
+    /**
+     * @param value non null argument value
+     * @param out   json is appended to it
+     */
+    void serialize(Object value, StringBuilder out);
+}
@@ -0,0 +1,282 @@
+package dev.nikunjgupta.request;
+
+import graphql.schema.*;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles graphql input types to {@link ValueSerializer}s.
+ * Serializers are cached per type, so a type shared by several operations is compiled once.
+ */
+public class ValueSerializers {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Serializer for values of unknown type (Object scalar, custom scalars)
+     */
+    public static final ValueSerializer ANY = ValueSerializers::serializeAny;
+    private static final ValueSerializer STRING = (value, out) -> appendJsonString(
+            value.toString(), out);
+    private static final ValueSerializer ANY_LIST = new ListSerializer(ANY);
+
+    private final Map<GraphQLType, ValueSerializer> serializers = new IdentityHashMap<>();
+
+    /**
+     * @param type graphql input type
+     * @return serializer for values of the type
+     */
+    public ValueSerializer getSerializer(GraphQLInputType type) {
+        ValueSerializer serializer = serializers.get(type);
+        if (serializer == null) {
+            serializer = compile(type);
+            serializers.put(type, serializer);
+        }
+        return serializer;
+    }
+
+    /**
+     * @param type graphql input object type
+     * @return serializer writing values of the type as application/x-www-form-urlencoded, null
+     * if the type is not an input object type
+     */
+    public ValueSerializer getFormSerializer(GraphQLInputType type) {
+        if (type instanceof GraphQLNonNull)
+            type = (GraphQLInputType) ((GraphQLNonNull) type).getWrappedType();
+        if (!(type instanceof GraphQLInputObjectType))
+            return null;
+        List<GraphQLInputObjectField> fields =
+                ((GraphQLInputObjectType) type).getFieldDefinitions();
+        String[] names = new String[fields.size()];
+        String[] keys = new String[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            names[i] = fields.get(i).getName();
+            StringBuilder key = new StringBuilder();
+            RequestPlan.appendEncoded(names[i], key);
+            keys[i] = key.append('=').toString();
+        }
+        return new FormSerializer(names, keys);
+    }
+
+    private ValueSerializer compile(GraphQLInputType type) {
+        if (type instanceof GraphQLNonNull)
+            return getSerializer((GraphQLInputType) ((GraphQLNonNull) type).getWrappedType());
+        if (type instanceof GraphQLList)
+            return new ListSerializer(getSerializer(
+                    (GraphQLInputType) ((GraphQLList) type).getWrappedType()));
+        if (type instanceof GraphQLEnumType)
+            return STRING;
+        if (type instanceof GraphQLInputObjectType) {
+            List<GraphQLInputObjectField> fields =
+                    ((GraphQLInputObjectType) type).getFieldDefinitions();
+            String[] names = new String[fields.size()];
+            char[][] keys = new char[fields.size()][];
+            ValueSerializer[] fieldSerializers = new ValueSerializer[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                names[i] = fields.get(i).getName();
+                StringBuilder key = new StringBuilder();
+                appendJsonString(names[i], key);
+                keys[i] = key.append(':').toString().toCharArray();
+                fieldSerializers[i] = getSerializer(fields.get(i).getType());
+            }
+            return new InputObjectSerializer(names, keys, fieldSerializers);
+        }
+        if (type instanceof GraphQLScalarType) {
+            String name = ((GraphQLScalarType) type).getName();
+            if (name.equals("String") || name.equals("ID"))
+                return STRING;
+        }
+        // numbers, booleans and Object scalars are written by their runtime type
+        return ANY;
+    }
+
+    /**
+     * Append a json string literal
+     */
+    public static void appendJsonString(String value, StringBuilder out) {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\')
+                continue;
+            out.append(value, start, i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            }
+            start = i + 1;
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+
+    /**
+     * Serialize a value by its runtime type
+     */
+    private static void serializeAny(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Integer) {
+            out.append(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            out.append(((Long) value).longValue());
+        } else if (value instanceof Double) {
+            out.append(((Double) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.append(((Boolean) value).booleanValue());
+        } else if (value instanceof Number) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first)
+                    out.append(',');
+                first = false;
+                appendJsonString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                serializeAny(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof List) {
+            ANY_LIST.serialize(value, out);
+        } else {
+            appendJsonString(value.toString(), out);
+        }
+    }
+
+    /**
+     * Serializes lists with the serializer of the item type
+     */
+    private static final class ListSerializer implements ValueSerializer {
+        private final ValueSerializer itemSerializer;
+
+        ListSerializer(ValueSerializer itemSerializer) {
+            this.itemSerializer = itemSerializer;
+        }
+
+        @Override
+        public void serialize(Object value, StringBuilder out) {
+            if (!(value instanceof List)) {
+                // graphql input coercion accepts a single value for a list
+                out.append('[');
+                itemSerializer.serialize(value, out);
+                out.append(']');
+                return;
+            }
+            List<?> list = (List<?>) value;
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0)
+                    out.append(',');
+                Object item = list.get(i);
+                if (item == null)
+                    out.append("null");
+                else
+                    itemSerializer.serialize(item, out);
+            }
+            out.append(']');
+        }
+    }
+
+    /**
+     * Serializes input objects as form fields with pre-encoded keys, list values repeat the
+     * field and nested objects are written as json
+     */
+    private static final class FormSerializer implements ValueSerializer {
+        private final String[] names;
+        private final String[] keys;
+
+        FormSerializer(String[] names, String[] keys) {
+            this.names = names;
+            this.keys = keys;
+        }
+
+        @Override
+        public void serialize(Object value, StringBuilder out) {
+            Map<?, ?> fields = (Map<?, ?>) value;
+            boolean first = true;
+            for (int i = 0; i < names.length; i++) {
+                Object fieldValue = fields.get(names[i]);
+                if (fieldValue == null)
+                    continue;
+                if (fieldValue instanceof List) {
+                    List<?> values = (List<?>) fieldValue;
+                    for (int j = 0; j < values.size(); j++) {
+                        first = appendFormField(keys[i], values.get(j), first, out);
+                    }
+                } else {
+                    first = appendFormField(keys[i], fieldValue, first, out);
+                }
+            }
+        }
+
+        private static boolean appendFormField(String key, Object value, boolean first,
+                                               StringBuilder out) {
+            if (!first)
+                out.append('&');
+            out.append(key);
+            if (value instanceof Map) {
+                StringBuilder json = new StringBuilder();
+                serializeAny(value, json);
+                RequestPlan.appendEncoded(json.toString(), out);
+            } else {
+                RequestPlan.appendEncoded(value, out);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Serializes input objects with pre-escaped keys and a serializer per field
+     */
+    private static final class InputObjectSerializer implements ValueSerializer {
+        private final String[] names;
+        private final char[][] keys;
+        private final ValueSerializer[] fieldSerializers;
+
+        InputObjectSerializer(String[] names, char[][] keys, ValueSerializer[] fieldSerializers) {
+            this.names = names;
+            this.keys = keys;
+            this.fieldSerializers = fieldSerializers;
+        }
+
+        @Override
+        public void serialize(Object value, StringBuilder out) {
+            if (!(value instanceof Map)) {
+                serializeAny(value, out);
+                return;
+            }
+            Map<?, ?> fields = (Map<?, ?>) value;
+            out.append('{');
+            boolean first = true;
+            for (int i = 0; i < names.length; i++) {
+                Object fieldValue = fields.get(names[i]);
+                if (fieldValue == null)
+                    continue;
+                if (!first)
+                    out.append(',');
+                first = false;
+                out.append(keys[i]);
+                fieldSerializers[i].serialize(fieldValue, out);
+            }
+            out.append('}');
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package dev.nikunjgupta;
+
+import dev.nikunjgupta.converter.SharedGraphQlTypes;
+import dev.nikunjgupta.provider.NameProvider;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaPrinter;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class CompactModeTest {
+
+    private static final String basePath =
+            CompactModeTest.class.getClassLoader().getResource("").getFile();
+    private static final String[] SPECS = new String[]{"petstore.json", "alerts.json",
+            "jsonplaceholder.json"};
+    private static final int TENANTS = 30;
+
+    @Before
+    public void setUp() throws Exception {
+        SharedGraphQlTypes.clear();
+    }
+
+    @Test
+    public void testCompactSchemaMatchesDefault() throws IOException {
+        String[][] testScenarios = new String[][]{
+                new String[]{"petstore.json", "petstore.graphql"},
+                new String[]{"alerts.json", "alerts.graphql"},
+                new String[]{"jsonplaceholder.json", "jsonplaceholder.graphql"}
+        };
+        for (String[] scenario : testScenarios) {
+            String openapiSchemaPath = basePath + "openapi/schema/" + scenario[0];
+            String graphqlSchemaPath = basePath + "graphql/schema/" + scenario[1];
+            GraphQLSchema schema = OpenApiToGraphQlSchema.generateGraphQlSchema(openapiSchemaPath,
+                    ConversionOptions.compact());
+            String[] printedSchema = new SchemaPrinter().print(schema).split("\n");
+            List<String> expectedSchema = Files.readAllLines(new File(graphqlSchemaPath).toPath());
+            for (int i = 0; i < printedSchema.length; i++) {
+                assertEquals("Did not match - " + scenario[0], expectedSchema.get(i).trim(),
+                        printedSchema[i].trim());
+            }
+        }
+    }
+
+    @Test
+    public void testOpenApiReleased() {
+        OpenAPI openAPI = parse("petstore.json");
+        WeakReference<OpenAPI> openApiRef = new WeakReference<>(openAPI);
+        OpenApiToGraphQlSchemaConverter converter =
+                new OpenApiToGraphQlSchemaConverter(openAPI, ConversionOptions.compact());
+        GraphQLSchema schema = converter.generateSchema();
+        reset();
+        openAPI = null;
+
+        for (int i = 0; i < 10 && openApiRef.get() != null; i++) {
+            System.gc();
+        }
+        assertNull("OpenAPI model still reachable", openApiRef.get());
+        assertNotNull(schema.getQueryType());
+        // the converter is used after the gc, so it was reachable while the model got collected
+        try {
+            converter.generateSchema();
+            fail("Released converter generated a schema");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleasedConverterCanNotBeReused() {
+        OpenApiToGraphQlSchemaConverter converter =
+                new OpenApiToGraphQlSchemaConverter(parse("petstore.json"),
+                        ConversionOptions.compact());
+        converter.generateSchema();
+        reset();
+        converter.generateSchema();
+    }
+
+    @Test
+    public void testTypesSharedAcrossTenants() {
+        String path = basePath + "openapi/schema/petstore.json";
+        GraphQLSchema schema1 = OpenApiToGraphQlSchema.generateGraphQlSchema(path,
+                ConversionOptions.compact());
+        GraphQLSchema schema2 = OpenApiToGraphQlSchema.generateGraphQlSchema(path,
+                ConversionOptions.compact());
+
+        GraphQLEnumType status1 = (GraphQLEnumType) schema1.getType("status");
+        GraphQLEnumType status2 = (GraphQLEnumType) schema2.getType("status");
+        assertNotNull(status1);
+        assertSame(status1, status2);
+    }
+
+    @Test
+    public void testSharedTypesReleasedWithSchemas() {
+        GraphQLSchema schema = OpenApiToGraphQlSchema.generateGraphQlSchema(
+                basePath + "openapi/schema/petstore.json", ConversionOptions.compact());
+        assertTrue(SharedGraphQlTypes.size() > 0);
+        assertNotNull(schema.getType("status"));
+        schema = null;
+
+        for (int i = 0; i < 10 && SharedGraphQlTypes.size() > 0; i++) {
+            System.gc();
+        }
+        assertEquals(0, SharedGraphQlTypes.size());
+    }
+
+    @Test
+    public void testConverterReleasedOnFailure() {
+        OpenAPI openAPI = parse("petstore.json");
+        WeakReference<OpenAPI> openApiRef = new WeakReference<>(openAPI);
+        // a path without operations objects fails the conversion
+        openAPI.getPaths().addPathItem("/broken", null);
+        OpenApiToGraphQlSchemaConverter converter =
+                new OpenApiToGraphQlSchemaConverter(openAPI, ConversionOptions.compact());
+        openAPI = null;
+        try {
+            converter.generateSchema();
+            fail("Conversion of a path without PathItem succeeded");
+        } catch (NullPointerException expected) {
+        }
+        reset();
+
+        for (int i = 0; i < 10 && openApiRef.get() != null; i++) {
+            System.gc();
+        }
+        assertNull("OpenAPI model still reachable", openApiRef.get());
+    }
+
+    @Test
+    public void testDescriptionsDropped() {
+        GraphQLSchema schema = OpenApiToGraphQlSchema.generateGraphQlSchema(
+                basePath + "openapi/schema/petstore.json",
+                ConversionOptions.compact().includeDescriptions(false));
+        assertFalse(new SchemaPrinter().print(schema).contains("\"\"\""));
+    }
+
+    /**
+     * Measures the used heap, which is only meaningful with explicit gc enabled and a quiet
+     * jvm - run with -Dheap=true
+     */
+    @Test
+    public void testCompactModeRetainsLessHeap() {
+        assumeTrue("heap measurement disabled, run with -Dheap=true", Boolean.getBoolean("heap"));
+        // compact first, default mode keeps the openapi models reachable for the whole run
+        List<Object> compactSchemas = new ArrayList<>();
+        long compactBytes = retainedBytes(compactSchemas,
+                ConversionOptions.compact().includeDescriptions(false));
+        List<Object> defaultSchemas = new ArrayList<>();
+        long defaultBytes = retainedBytes(defaultSchemas, ConversionOptions.defaults());
+
+        assertTrue("Retained heap for " + TENANTS * SPECS.length + " schemas - compact: "
+                        + compactBytes / 1024 + "KB, default: " + defaultBytes / 1024 + "KB",
+                compactBytes < defaultBytes / 2);
+        assertEquals(compactSchemas.size(), defaultSchemas.size());
+    }
+
+    /**
+     * Convert every spec once per tenant and keep the schemas and converters reachable
+     *
+     * @return heap growth caused by the retained objects
+     */
+    private long retainedBytes(List<Object> retained, ConversionOptions options) {
+        long before = usedHeap();
+        for (int i = 0; i < TENANTS; i++) {
+            for (String spec : SPECS) {
+                OpenApiToGraphQlSchemaConverter converter =
+                        new OpenApiToGraphQlSchemaConverter(parse(spec), options);
+                retained.add(converter.generateSchema());
+                retained.add(converter);
+                reset();
+            }
+        }
+        return usedHeap() - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static OpenAPI parse(String spec) {
+        return new OpenAPIParser().readLocation(basePath + "openapi/schema/" + spec, null, null)
+                .getOpenAPI();
+    }
+
+    private static void reset() {
+        NameProvider.getInstance().reset();
+    }
+}
@@ -0,0 +1,218 @@
+package dev.nikunjgupta;
+
+import dev.nikunjgupta.provider.SchemaProvider;
+import dev.nikunjgupta.request.RequestPlan;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLSchema;
+import io.swagger.parser.OpenAPIParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ShardedGraphQlSchemaTest {
+
+    private static final String basePath =
+            ShardedGraphQlSchemaTest.class.getClassLoader().getResource("").getFile();
+
+    private ShardedGraphQlSchema petstore;
+
+    @Before
+    public void setUp() throws Exception {
+        petstore = OpenApiToGraphQlSchema.generateShardedGraphQlSchema(
+                basePath + "openapi/schema/petstore.json", ShardingStrategy.TAG,
+                ConversionOptions.defaults());
+    }
+
+    @Test
+    public void testShardsBuiltOnFirstUse() {
+        assertEquals(new HashSet<>(Arrays.asList("pet", "store", "user")),
+                petstore.getShardNames());
+        assertTrue(petstore.getBuiltShardNames().isEmpty());
+
+        GraphQLSchema storeSchema = petstore.getSchema("store");
+        assertEquals(Collections.singleton(Collections.singleton("store")),
+                petstore.getBuiltShardNames());
+        assertSame(storeSchema, petstore.getSchema("store"));
+        assertEquals(Arrays.asList("getInventory", "getOrderById"),
+                fieldNames(storeSchema.getQueryType().getFieldDefinitions()));
+        assertEquals(Collections.singletonList("placeOrder"),
+                fieldNames(storeSchema.getMutationType().getFieldDefinitions()));
+    }
+
+    @Test
+    public void testShardRequestPlans() {
+        Map<FieldCoordinates, RequestPlan> requestPlans = petstore.getRequestPlans("store");
+        assertSame(requestPlans, petstore.getRequestPlans("store"));
+        assertEquals(new HashSet<>(Arrays.asList(
+                FieldCoordinates.coordinates("Query", "getInventory"),
+                FieldCoordinates.coordinates("Query", "getOrderById"),
+                FieldCoordinates.coordinates("Mutation", "placeOrder"))), requestPlans.keySet());
+        assertEquals("https://petstore.swagger.io/v2/store/order/3", requestPlans
+                .get(FieldCoordinates.coordinates("Query", "getOrderById"))
+                .createUrl(Collections.singletonMap("orderId", 3)));
+    }
+
+    @Test
+    public void testCombinedShards() {
+        GraphQLSchema schema = petstore.getSchema(Arrays.asList("store", "pet"));
+        assertSame(schema, petstore.getSchema(Arrays.asList("pet", "store")));
+        List<String> queryFields = fieldNames(schema.getQueryType().getFieldDefinitions());
+        assertTrue(queryFields.containsAll(Arrays.asList("getInventory", "getPetById")));
+        assertFalse(queryFields.contains("getUserByName"));
+    }
+
+    @Test
+    public void testRoute() {
+        assertEquals(Collections.singleton("pet"),
+                petstore.route("{ getPetById(petId: 1) { name } }"));
+        assertEquals(new HashSet<>(Arrays.asList("pet", "user")),
+                petstore.route("query { ...F __typename } fragment F on Query { " +
+                        "getUserByName(username: \"a\") { id } " +
+                        "findPetsByStatus(status: [available]) { id } }"));
+        assertEquals(Collections.singleton("store"),
+                petstore.route("mutation { placeOrder(body: {id: 1}) { id } }"));
+
+        GraphQLSchema schema = petstore.getSchemaForQuery("{ getInventory }");
+        assertSame(petstore.getSchema("store"), schema);
+        assertFalse(petstore.getBuiltShardNames().contains(Collections.singleton("pet")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRouteUnknownField() {
+        petstore.route("{ unknownField }");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRouteUnconvertedOperation() {
+        // DELETE operations are not converted to fields
+        petstore.route("mutation { deletePet(petId: 1) }");
+    }
+
+    @Test
+    public void testMutationOnlyShard() {
+        ShardedGraphQlSchema sharded =
+                createSharded(ShardedGraphQlSchema.DEFAULT_MAX_CACHED_SCHEMAS);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), sharded.getShardNames());
+
+        GraphQLSchema schema = sharded.getSchemaForQuery(
+                "mutation { postB(body: {name: \"x\"}) { name } }");
+        assertEquals(
+                Collections.singletonList(OpenApiToGraphQlSchemaConverter.EMPTY_QUERY_FIELD),
+                fieldNames(schema.getQueryType().getFieldDefinitions()));
+        assertEquals(Collections.singletonList("postB"),
+                fieldNames(schema.getMutationType().getFieldDefinitions()));
+    }
+
+    @Test
+    public void testDuplicateOperationNames() {
+        ShardedGraphQlSchema sharded =
+                createSharded(ShardedGraphQlSchema.DEFAULT_MAX_CACHED_SCHEMAS);
+        assertEquals(Collections.singleton("a"), sharded.route("{ getThing { name } }"));
+        assertEquals(Collections.singleton("c"), sharded.route("{ getThing1 }"));
+        assertEquals(Arrays.asList("getShared", "getThing1"),
+                fieldNames(sharded.getSchema("c").getQueryType().getFieldDefinitions()));
+        assertEquals(Arrays.asList("getShared", "getThing", "getThing1"),
+                fieldNames(sharded.getSchema(Arrays.asList("a", "c")).getQueryType()
+                        .getFieldDefinitions()));
+        try {
+            sharded.route("{ postB { name } }");
+            fail("Mutation field routed as query field");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testRoutePrefersShardServingMostFields() {
+        ShardedGraphQlSchema sharded =
+                createSharded(ShardedGraphQlSchema.DEFAULT_MAX_CACHED_SCHEMAS);
+        // getShared is served by a and c, getThing1 only by c
+        assertEquals(Collections.singleton("c"), sharded.route("{ getShared getThing1 }"));
+        assertEquals(Collections.singleton("a"),
+                sharded.route("{ getShared getThing { name } }"));
+        assertEquals(Collections.singleton("a"), sharded.route("{ getShared }"));
+    }
+
+    @Test
+    public void testTypeNamesIndependentOfShardCombination() {
+        // Pet.status and Order.status are both enums named status, the store shard alone
+        // must not take the name Pet.status has in the whole openapi
+        String storeName = statusTypeName(petstore.getSchema("store"), "Order");
+        assertEquals(storeName, statusTypeName(
+                petstore.getSchema(Arrays.asList("pet", "store")), "Order"));
+        GraphQLSchema schema = OpenApiToGraphQlSchema.generateGraphQlSchema(
+                basePath + "openapi/schema/petstore.json");
+        assertEquals(statusTypeName(schema, "Order"), storeName);
+        assertEquals(statusTypeName(schema, "Pet"),
+                statusTypeName(petstore.getSchema("pet"), "Pet"));
+    }
+
+    @Test
+    public void testViewsNotRetained() throws Exception {
+        Field field = SchemaProvider.class.getDeclaredField("OPEN_API_SCHEMA_PROVIDER_MAP");
+        field.setAccessible(true);
+        Map<?, ?> schemaProviders = (Map<?, ?>) field.get(null);
+        int size = schemaProviders.size();
+        petstore.getSchema("store");
+        petstore.getSchema(Arrays.asList("pet", "user"));
+        assertEquals(size, schemaProviders.size());
+    }
+
+    @Test
+    public void testCacheBounded() {
+        ShardedGraphQlSchema sharded = createSharded(2);
+        GraphQLSchema schema = sharded.getSchema("a");
+        sharded.getSchema("b");
+        sharded.getSchema("c");
+        assertEquals(new HashSet<>(Arrays.asList(Collections.singleton("b"),
+                Collections.singleton("c"))), sharded.getBuiltShardNames());
+        assertNotSame(schema, sharded.getSchema("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownShard() {
+        petstore.getSchema("unknown");
+    }
+
+    @Test
+    public void testPathPrefixSharding() {
+        ShardedGraphQlSchema alerts = OpenApiToGraphQlSchema.generateShardedGraphQlSchema(
+                basePath + "openapi/schema/alerts.json", ShardingStrategy.PATH_PREFIX,
+                ConversionOptions.compact());
+        assertEquals(Collections.singleton("alerts"), alerts.getShardNames());
+        assertNotNull(alerts.getSchema("alerts").getQueryType());
+
+        Set<String> shards = OpenApiToGraphQlSchema.generateShardedGraphQlSchema(
+                basePath + "openapi/schema/jsonplaceholder.json", ShardingStrategy.TAG,
+                ConversionOptions.defaults()).getShardNames();
+        assertEquals(new HashSet<>(Arrays.asList("albums", "comments", "photos", "posts",
+                "todos", "users")), shards);
+    }
+
+    private static ShardedGraphQlSchema createSharded(int maxCachedSchemas) {
+        return new ShardedGraphQlSchema(new OpenAPIParser().readLocation(
+                basePath + "openapi/schema/sharded.json", null, null).getOpenAPI(),
+                ShardingStrategy.TAG, ConversionOptions.defaults(), maxCachedSchemas);
+    }
+
+    private static String statusTypeName(GraphQLSchema schema, String typeName) {
+        return ((GraphQLNamedType) schema.getObjectType(typeName).getFieldDefinition("status")
+                .getType()).getName();
+    }
+
+    private static List<String> fieldNames(List<GraphQLFieldDefinition> fields) {
+        return fields.stream().map(GraphQLFieldDefinition::getName).sorted()
+                .collect(Collectors.toList());
+    }
+}
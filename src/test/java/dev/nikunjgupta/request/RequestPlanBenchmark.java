@@ -0,0 +1,131 @@
+package dev.nikunjgupta.request;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.nikunjgupta.OpenApiToGraphQlSchemaConverter;
+import dev.nikunjgupta.provider.NameProvider;
+import graphql.schema.FieldCoordinates;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building http requests from graphql arguments with precompiled {@link RequestPlan}s
+ * against resolving the openapi operation per call (regex path templating, URLEncoder, jackson).
+ * Run {@link #main(String[])} (or {@code org.openjdk.jmh.Main RequestPlanBenchmark -prof gc}
+ * for allocation rates) with the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestPlanBenchmark {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String BASE_URL = "https://petstore.swagger.io/v2";
+
+    private OpenAPI openAPI;
+    private RequestPlan getPetById;
+    private RequestPlan loginUser;
+    private RequestPlan placeOrder;
+    private Map<String, Object> petArguments;
+    private Map<String, Object> loginArguments;
+    private Map<String, Object> orderArguments;
+
+    @Setup
+    public void setUp() {
+        String path = RequestPlanBenchmark.class.getClassLoader()
+                .getResource("openapi/schema/petstore.json").getFile();
+        openAPI = new OpenAPIParser().readLocation(path, null, null).getOpenAPI();
+        OpenApiToGraphQlSchemaConverter converter = new OpenApiToGraphQlSchemaConverter(
+                new OpenAPIParser().readLocation(path, null, null).getOpenAPI());
+        converter.generateSchema();
+        NameProvider.getInstance().reset();
+        Map<FieldCoordinates, RequestPlan> plans = converter.getRequestPlans();
+        getPetById = plans.get(FieldCoordinates.coordinates("Query", "getPetById"));
+        loginUser = plans.get(FieldCoordinates.coordinates("Query", "loginUser"));
+        placeOrder = plans.get(FieldCoordinates.coordinates("Mutation", "placeOrder"));
+
+        petArguments = Collections.singletonMap("petId", 42);
+        loginArguments = new HashMap<>();
+        loginArguments.put("username", "jane doe");
+        loginArguments.put("password", "secret");
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", 7);
+        order.put("petId", 42);
+        order.put("quantity", 2);
+        order.put("shipDate", "2023-01-01T00:00:00Z");
+        order.put("status", "placed");
+        order.put("complete", false);
+        orderArguments = Collections.singletonMap("body", order);
+    }
+
+    @Benchmark
+    public String pathPlanned() {
+        return getPetById.createUrl(petArguments);
+    }
+
+    @Benchmark
+    public String pathPerCall() throws UnsupportedEncodingException {
+        return createUrlPerCall("/pet/{petId}", "get", petArguments);
+    }
+
+    @Benchmark
+    public String queryPlanned() {
+        return loginUser.createUrl(loginArguments);
+    }
+
+    @Benchmark
+    public String queryPerCall() throws UnsupportedEncodingException {
+        return createUrlPerCall("/user/login", "get", loginArguments);
+    }
+
+    @Benchmark
+    public String bodyPlanned() {
+        return placeOrder.createBody(orderArguments);
+    }
+
+    @Benchmark
+    public String bodyPerCall() throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsString(orderArguments.get("body"));
+    }
+
+    /**
+     * Straightforward fetcher - look the operation up and template its path on every call
+     */
+    private String createUrlPerCall(String path, String method, Map<String, Object> arguments)
+            throws UnsupportedEncodingException {
+        Operation operation = openAPI.getPaths().get(path).readOperationsMap()
+                .get(io.swagger.v3.oas.models.PathItem.HttpMethod.valueOf(method.toUpperCase()));
+        String url = BASE_URL + path;
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        for (Parameter parameter : operation.getParameters()) {
+            Object value = arguments.get(parameter.getName());
+            if (value == null)
+                continue;
+            String encoded = URLEncoder.encode(value.toString(), "UTF-8").replace("+", "%20");
+            if ("path".equals(parameter.getIn()))
+                url = url.replaceAll("\\{" + parameter.getName() + "}", encoded);
+            else if ("query".equals(parameter.getIn()))
+                query.add(parameter.getName() + "=" + encoded);
+        }
+        return url + query;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestPlanBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
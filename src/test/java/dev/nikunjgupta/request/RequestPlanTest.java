@@ -0,0 +1,169 @@
+package dev.nikunjgupta.request;
+
+import dev.nikunjgupta.OpenApiToGraphQlSchemaConverter;
+import dev.nikunjgupta.provider.NameProvider;
+import graphql.Scalars;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLList;
+import io.swagger.models.HttpMethod;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RequestPlanTest {
+
+    private static final String basePath =
+            RequestPlanTest.class.getClassLoader().getResource("").getFile();
+
+    private static Map<FieldCoordinates, RequestPlan> requestPlans;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        OpenApiToGraphQlSchemaConverter converter = new OpenApiToGraphQlSchemaConverter(
+                new OpenAPIParser().readLocation(basePath + "openapi/schema/petstore.json",
+                        null, null).getOpenAPI());
+        converter.generateSchema();
+        NameProvider.getInstance().reset();
+        requestPlans = converter.getRequestPlans();
+    }
+
+    @Test
+    public void testPathArguments() {
+        HttpRequest request = plan("Query", "getPetById")
+                .createRequest(Collections.singletonMap("petId", 5));
+        assertEquals("GET", request.getMethod());
+        assertEquals("https://petstore.swagger.io/v2/pet/5", request.getUrl());
+        assertTrue(request.getHeaders().isEmpty());
+        assertNull(request.getBody());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingPathArgument() {
+        plan("Query", "getPetById").createRequest(Collections.emptyMap());
+    }
+
+    @Test
+    public void testQueryArguments() {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("username", "jane doe");
+        arguments.put("password", "p&ss/w\u00f6rd");
+        assertEquals("https://petstore.swagger.io/v2/user/login?username=jane%20doe" +
+                        "&password=p%26ss%2Fw%C3%B6rd",
+                plan("Query", "loginUser").createUrl(arguments));
+
+        assertEquals("https://petstore.swagger.io/v2/pet/findByStatus?status=available" +
+                        "&status=sold",
+                plan("Query", "findPetsByStatus").createUrl(Collections.singletonMap("status",
+                        Arrays.asList("available", "sold"))));
+        assertEquals("https://petstore.swagger.io/v2/user/login",
+                plan("Query", "loginUser").createUrl(Collections.emptyMap()));
+    }
+
+    @Test
+    public void testBody() {
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("status", "placed");
+        order.put("complete", true);
+        order.put("shipDate", "\"soon\"\n");
+        order.put("id", 7);
+        HttpRequest request = plan("Mutation", "placeOrder")
+                .createRequest(Collections.singletonMap("body", order));
+        assertEquals("POST", request.getMethod());
+        assertEquals("https://petstore.swagger.io/v2/store/order", request.getUrl());
+        assertEquals("application/json", request.getHeaders().get("Content-Type"));
+        assertEquals("{\"id\":7,\"shipDate\":\"\\\"soon\\\"\\n\",\"status\":\"placed\"," +
+                "\"complete\":true}", request.getBody());
+        assertSame(request.getHeaders(), plan("Mutation", "placeOrder")
+                .createHeaders(Collections.emptyMap()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHeadersUnmodifiable() {
+        plan("Mutation", "placeOrder").createHeaders(Collections.emptyMap())
+                .put("Accept", "*/*");
+    }
+
+    @Test
+    public void testUnsupportedBodyMediaType() {
+        // uploadFile takes a multipart/form-data body
+        assertNull(requestPlans.get(FieldCoordinates.coordinates("Mutation", "uploadFile")));
+    }
+
+    @Test
+    public void testFormBodyHeadersAndCookies() {
+        GraphQLInputObjectType formType = GraphQLInputObjectType.newInputObject()
+                .name("Form")
+                .field(GraphQLInputObjectField.newInputObjectField()
+                        .name("name").type(Scalars.GraphQLString))
+                .field(GraphQLInputObjectField.newInputObjectField()
+                        .name("tags").type(GraphQLList.list(Scalars.GraphQLString)))
+                .build();
+        RequestPlan plan = new RequestPlanCompiler("https://example.com/").compile("/pets",
+                HttpMethod.POST, Arrays.asList(
+                        new Parameter().name("X-Trace").in("header"),
+                        new Parameter().name("session").in("cookie"),
+                        new Parameter().name("lang").in("cookie")),
+                "body", formType, "application/x-www-form-urlencoded");
+
+        Map<String, Object> form = new LinkedHashMap<>();
+        form.put("tags", Arrays.asList("a", "b c"));
+        form.put("name", "x&y");
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("body", form);
+        arguments.put("X-Trace", "t1");
+        arguments.put("session", "s 1");
+        arguments.put("lang", "en");
+        HttpRequest request = plan.createRequest(arguments);
+
+        assertEquals("https://example.com/pets", request.getUrl());
+        assertEquals("name=x%26y&tags=a&tags=b%20c", request.getBody());
+        assertEquals("application/x-www-form-urlencoded",
+                request.getHeaders().get("Content-Type"));
+        assertEquals("t1", request.getHeaders().get("X-Trace"));
+        assertEquals("session=s%201; lang=en", request.getHeaders().get("Cookie"));
+
+        assertNull(new RequestPlanCompiler("").compile("/pets", HttpMethod.POST,
+                Collections.emptyList(), "body", formType, "multipart/form-data"));
+    }
+
+    @Test
+    public void testMediaTypeParameters() {
+        RequestPlan plan = new RequestPlanCompiler("https://example.com").compile("/pets",
+                HttpMethod.POST, Collections.emptyList(), "body", Scalars.GraphQLString,
+                "Application/JSON; charset=utf-8");
+        assertNotNull(plan);
+        HttpRequest request = plan.createRequest(Collections.singletonMap("body", "x"));
+        assertEquals("\"x\"", request.getBody());
+        assertEquals("Application/JSON; charset=utf-8", request.getHeaders().get("Content-Type"));
+    }
+
+    @Test
+    public void testListPathAndHeaderValues() {
+        RequestPlan plan = new RequestPlanCompiler("https://example.com").compile(
+                "/pets/{ids}", HttpMethod.GET, Collections.singletonList(
+                        new Parameter().name("X-Tags").in("header")), null, null, null);
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("ids", Arrays.asList(1, "a b"));
+        arguments.put("X-Tags", Arrays.asList("a", "b"));
+        HttpRequest request = plan.createRequest(arguments);
+        assertEquals("https://example.com/pets/1,a%20b", request.getUrl());
+        assertEquals("a,b", request.getHeaders().get("X-Tags"));
+    }
+
+    private static RequestPlan plan(String typeName, String fieldName) {
+        RequestPlan plan = requestPlans.get(FieldCoordinates.coordinates(typeName, fieldName));
+        assertNotNull(typeName + "." + fieldName, plan);
+        return plan;
+    }
+}